@@ -1,6 +1,5 @@
 package com.example2.demo.config;
 
-import com.example2.demo.repository.UserRepository;
 import com.example2.demo.service.CustomUserDetailsService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,7 +8,6 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -20,29 +18,26 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
     private final CustomUserDetailsService customUserDetailsService;
 
     /**
-     * Constructor-based dependency injection for UserRepository and CustomUserDetailsService.
+     * Constructor-based dependency injection for CustomUserDetailsService.
      *
-     * @param userRepository           the repository to interact with user data.
      * @param customUserDetailsService custom implementation of UserDetailsService.
      */
-    public ApplicationConfig(UserRepository userRepository, CustomUserDetailsService customUserDetailsService) {
-        this.userRepository = userRepository;
+    public ApplicationConfig(CustomUserDetailsService customUserDetailsService) {
         this.customUserDetailsService = customUserDetailsService;
     }
 
     /**
-     * Configures a UserDetailsService bean that fetches user details from the UserRepository.
+     * Configures a UserDetailsService bean that resolves users through the lean credential
+     * lookup of CustomUserDetailsService, so bearer-token requests skip loading the full entity.
      *
      * @return a lambda-based UserDetailsService implementation.
      */
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
+        return customUserDetailsService::loadUserByUsername;
 
     }
 
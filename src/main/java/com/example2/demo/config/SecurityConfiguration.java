@@ -37,6 +37,7 @@ public class SecurityConfiguration {
         httpSecurity
                 .csrf(csrf -> csrf.disable()) // Use lambda syntax to disable CSRF
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/introspect").hasAnyRole("SERVICE", "ADMIN") // Token introspection is for downstream services only
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/**").permitAll() // Permit authentication endpoints
                         .requestMatchers(HttpMethod.GET, "/api/v1/users/user/**").hasAnyRole("USER", "ADMIN") // Requires "ROLE_USER"
                         .requestMatchers(HttpMethod.GET, "/api/v1/users/admin/**").hasRole("ADMIN") // Requires "ROLE_USER" or "ROLE_ADMIN"
@@ -0,0 +1,31 @@
+package com.example2.demo.controller;
+
+import com.example2.demo.repository.EmployeeAggregate;
+import com.example2.demo.service.EmployeeAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/employees")
+@RequiredArgsConstructor
+public class EmployeeAggregateController {
+
+    private final EmployeeAggregateService employeeAggregateService;
+
+    /**
+     * Returns headcount and salary totals per department and status, served from the in-memory aggregates.
+     *
+     * @return one entry per department and status.
+     */
+    @GetMapping("/aggregates")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<EmployeeAggregate>> aggregates() {
+        return ResponseEntity.ok(employeeAggregateService.getAggregates());
+    }
+}
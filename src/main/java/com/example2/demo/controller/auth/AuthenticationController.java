@@ -1,27 +1,61 @@
 package com.example2.demo.controller.auth;
 
 import com.example2.demo.service.AuthenticationService;
+import com.example2.demo.service.EmailAlreadyRegisteredException;
+import com.example2.demo.service.TokenIntrospectionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
     @PostMapping("/register")
     public ResponseEntity<AuthenticationResponse> register(@RequestBody RegisterRequest request) {
-        return  ResponseEntity.ok(authenticationService.register(request));
+        try {
+            return  ResponseEntity.ok(authenticationService.register(request));
+        } catch (EmailAlreadyRegisteredException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @PostMapping("/authenticate")
     public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody AuthenticateRequest request) {
         return  ResponseEntity.ok(authenticationService.authenticate(request));
     }
+
+    /**
+     * Verifies a batch of tokens for downstream services, streaming one result per token in request order.
+     * A body found malformed after streaming has started aborts the response instead of completing it.
+     *
+     * @param request  the request whose body is {@code {"tokens": ["...", ...]}}.
+     * @param response the response the JSON array of results is streamed to.
+     * @throws IOException in case of I/O errors, or a malformed body detected after streaming started.
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_SERVICE', 'ROLE_ADMIN')")
+    public void introspect(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            tokenIntrospectionService.introspect(request.getInputStream(), response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            // Nothing has been written yet; answer directly rather than through the /error dispatch, which security blocks
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.example2.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "employee")
+@EntityListeners(EmployeeAggregateListener.class)
+public class Employee {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String empCode;
+    private String designation;
+    private String email;
+    private String phone;
+    private LocalDate hireDate;
+    private BigDecimal salary;
+    private String department;
+    private String status = "Active";
+    private LocalDate dateOfBirth;
+
+    // Values as last read from or written to the database, so updates and deletes can be undone in the aggregates.
+    // Bookkeeping for EmployeeAggregateListener only, hence package-private and without accessors.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    String persistedDepartment;
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    String persistedStatus;
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    BigDecimal persistedSalary;
+}
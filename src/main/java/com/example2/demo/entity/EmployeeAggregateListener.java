@@ -0,0 +1,54 @@
+package com.example2.demo.entity;
+
+import com.example2.demo.service.EmployeeAggregateService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that feeds employee inserts, updates and deletes into {@link EmployeeAggregateService}.
+ * Deltas are applied after the surrounding transaction commits, so rolled-back changes never reach the aggregates.
+ */
+@Component
+public class EmployeeAggregateListener {
+
+    // Resolved lazily: the service depends on the repository, which is built with this listener
+    private final ObjectProvider<EmployeeAggregateService> aggregateService;
+
+    public EmployeeAggregateListener(ObjectProvider<EmployeeAggregateService> aggregateService) {
+        this.aggregateService = aggregateService;
+    }
+
+    @PostLoad
+    void onLoad(Employee employee) {
+        remember(employee);
+    }
+
+    @PostPersist
+    void onPersist(Employee employee) {
+        aggregateService.getObject().record(employee.getDepartment(), employee.getStatus(), employee.getSalary(), 1);
+        remember(employee);
+    }
+
+    @PostUpdate
+    void onUpdate(Employee employee) {
+        EmployeeAggregateService service = aggregateService.getObject();
+        service.record(employee.persistedDepartment, employee.persistedStatus, employee.persistedSalary, -1);
+        service.record(employee.getDepartment(), employee.getStatus(), employee.getSalary(), 1);
+        remember(employee);
+    }
+
+    @PostRemove
+    void onRemove(Employee employee) {
+        aggregateService.getObject().record(employee.persistedDepartment, employee.persistedStatus, employee.persistedSalary, -1);
+    }
+
+    private static void remember(Employee employee) {
+        employee.persistedDepartment = employee.getDepartment();
+        employee.persistedStatus = employee.getStatus();
+        employee.persistedSalary = employee.getSalary();
+    }
+}
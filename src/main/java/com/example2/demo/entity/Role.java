@@ -2,5 +2,7 @@ package com.example2.demo.entity;
 
 public enum Role {
     USER,
-    ADMIN
+    ADMIN,
+    // Downstream services allowed to introspect tokens
+    SERVICE
 }
@@ -8,6 +8,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
 @Getter
@@ -22,11 +23,28 @@ public class User implements UserDetails {
     private String firstname;
     private String lastname;
     private String email;
+    private String emailNormalized;
     private String password;
 
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    /**
+     * Canonical form of an email used as the login key, so lookups are case-insensitive.
+     *
+     * @param email the email as entered.
+     * @return the trimmed, lower-cased email, or null if email is null.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateEmailNormalized() {
+        emailNormalized = normalizeEmail(email);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -34,7 +52,8 @@ public class User implements UserDetails {
 
     @Override
     public String getUsername() {
-        return email;
+        // Same identity the credential lookup returns, so issued tokens match on validation
+        return emailNormalized;
     }
 
     @Override
@@ -0,0 +1,9 @@
+package com.example2.demo.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Headcount and salary total of the employees sharing a department and status.
+ */
+public record EmployeeAggregate(String department, String status, long headcount, BigDecimal totalSalary) {
+}
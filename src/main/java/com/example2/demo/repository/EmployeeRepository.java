@@ -0,0 +1,40 @@
+package com.example2.demo.repository;
+
+import com.example2.demo.entity.Employee;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+
+    @Query("select min(e.id) from Employee e")
+    Optional<Long> findMinId();
+
+    @Query("select max(e.id) from Employee e")
+    Optional<Long> findMaxId();
+
+    /**
+     * Aggregates the employees whose id falls in the given range, used to rebuild the aggregates in parallel chunks.
+     *
+     * @param fromId first id of the range, inclusive.
+     * @param toId   last id of the range, inclusive.
+     * @return one row per department and status present in the range.
+     */
+    @Query("select new com.example2.demo.repository.EmployeeAggregate(e.department, e.status, count(e), coalesce(sum(e.salary), 0)) "
+            + "from Employee e where e.id between :fromId and :toId group by e.department, e.status")
+    List<EmployeeAggregate> aggregateByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Aggregates the whole table; used by the consistency check.
+     *
+     * @return one row per department and status.
+     */
+    @Query("select new com.example2.demo.repository.EmployeeAggregate(e.department, e.status, count(e), coalesce(sum(e.salary), 0)) "
+            + "from Employee e group by e.department, e.status")
+    List<EmployeeAggregate> aggregateAll();
+}
@@ -0,0 +1,12 @@
+package com.example2.demo.repository;
+
+import com.example2.demo.entity.Role;
+
+/**
+ * Read-only projection of the columns needed to authenticate a user.
+ * Instances are plain values, never managed by the persistence context.
+ *
+ * @param username the normalized email, which is the user's login identity.
+ */
+public record UserCredentials(String username, String password, Role role) {
+}
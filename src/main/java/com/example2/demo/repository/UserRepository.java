@@ -2,11 +2,24 @@ package com.example2.demo.repository;
 
 import com.example2.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
-    Optional<User> findByEmail(String email);
+
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    /**
+     * Fetches only the login columns, served entirely from the idx_user_credentials index.
+     *
+     * @param emailNormalized the user's email in the form produced by {@link User#normalizeEmail(String)}.
+     * @return the credentials, or empty if no user has this email.
+     */
+    @Query("select new com.example2.demo.repository.UserCredentials(u.emailNormalized, u.password, u.role) "
+            + "from User u where u.emailNormalized = :emailNormalized")
+    Optional<UserCredentials> findCredentialsByEmailNormalized(@Param("emailNormalized") String emailNormalized);
 }
@@ -7,8 +7,10 @@ import com.example2.demo.entity.Role;
 import com.example2.demo.entity.User;
 import com.example2.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -28,9 +30,15 @@ public class AuthenticationService {
      *
      * @param request contains registration details like first name, last name, email, and password
      * @return AuthenticationResponse containing the generated JWT token
+     * @throws EmailAlreadyRegisteredException if a user with the same normalized email exists
      */
     public AuthenticationResponse register(RegisterRequest request) {
 
+        // Reject case and whitespace variants of an existing email, which would share its login key
+        if (userRepository.existsByEmailNormalized(User.normalizeEmail(request.getEmail()))) {
+            throw new EmailAlreadyRegisteredException(request.getEmail());
+        }
+
         // Create and populate a new User entity
         var user = new User();
         user.setFirstname(request.getFirstname());
@@ -39,7 +47,12 @@ public class AuthenticationService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(Role.USER);
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration of the same email won the race on the unique index
+            throw new EmailAlreadyRegisteredException(request.getEmail());
+        }
         var jwtToken = jwtService.generateToken(user);
         return AuthenticationResponse.builder()
                 .token(jwtToken)
@@ -55,10 +68,11 @@ public class AuthenticationService {
     public AuthenticationResponse authenticate(AuthenticateRequest request) {
 
         // Authenticate the user using the authentication manager
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+        var authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
-        // Fetch the user from the database
-        var user = userRepository.findByEmail(request.getEmail()).orElseThrow();
+        // The principal already carries the email and role loaded during authentication
+        var user = (UserDetails) authentication.getPrincipal();
 
         // Generate JWT token for the authenticated user
         var jwtToken = jwtService.generateToken(user);
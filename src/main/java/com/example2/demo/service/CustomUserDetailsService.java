@@ -1,6 +1,7 @@
 package com.example2.demo.service;
 
 import com.example2.demo.entity.User;
+import com.example2.demo.repository.UserCredentials;
 import com.example2.demo.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -8,6 +9,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,15 +23,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
+        // Read only the credential columns; nothing is attached to the persistence context
+        UserCredentials credentials = userRepository.findCredentialsByEmailNormalized(User.normalizeEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         // Ensure this properly loads the role
-        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
+        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + credentials.role().name());
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
+                credentials.username(),
+                credentials.password(),
                 List.of(authority) // Ensure that the correct role is added here
         );
     }
@@ -0,0 +1,11 @@
+package com.example2.demo.service;
+
+/**
+ * Thrown when registering an email whose normalized form already belongs to a user.
+ */
+public class EmailAlreadyRegisteredException extends RuntimeException {
+
+    public EmailAlreadyRegisteredException(String email) {
+        super("Email is already registered: " + email);
+    }
+}
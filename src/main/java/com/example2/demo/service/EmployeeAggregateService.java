@@ -0,0 +1,322 @@
+package com.example2.demo.service;
+
+import com.example2.demo.entity.EmployeeAggregateListener;
+import com.example2.demo.repository.EmployeeAggregate;
+import com.example2.demo.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps employee headcount and salary totals per department and status in memory.
+ * The totals are rebuilt from the table at startup and then maintained incrementally by
+ * {@link EmployeeAggregateListener} as employees are inserted, updated and deleted, so reads
+ * never scan the employee table. Changes made outside JPA are not seen incrementally; the
+ * periodic consistency check detects and repairs any drift.
+ * <p>
+ * Each transaction that changes employees collects its deltas in one buffer bound to the transaction and
+ * applies them after commit. Scans never block writers: a scan starts only when no such transaction is in
+ * flight, and its result is discarded if one started meanwhile, since the scan may or may not have seen
+ * that transaction's rows while its deltas are still to come.
+ */
+@Service
+public class EmployeeAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeAggregateService.class);
+
+    private static final int MAX_SCAN_ATTEMPTS = 3;
+    private static final long QUIET_WAIT_NANOS = 1_000_000_000L;
+
+    private final EmployeeRepository employeeRepository;
+
+    @Value("${employee.aggregates.rebuild-chunk-size}")
+    private long rebuildChunkSize;
+
+    // Transactions with deltas not yet applied, and a counter bumped whenever one starts
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+    private final AtomicLong writeEpoch = new AtomicLong();
+    private final Object installLock = new Object();
+
+    private volatile Map<GroupKey, EmployeeAggregate> aggregates = new ConcurrentHashMap<>();
+
+    public EmployeeAggregateService(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Outcome of {@link #checkConsistency()}.
+     */
+    public enum ConsistencyCheckResult {
+        /** The totals matched the employee table. */
+        CONSISTENT,
+        /** The totals had drifted and were replaced with the scanned values. */
+        REPAIRED,
+        /** Employee changes kept arriving, so no scan could be compared; the next check tries again. */
+        SKIPPED
+    }
+
+    /**
+     * Returns the current totals, one entry per department and status.
+     * The cost depends on the number of groups only, not on the number of employees.
+     *
+     * @return a snapshot of the aggregates.
+     */
+    public List<EmployeeAggregate> getAggregates() {
+        return List.copyOf(aggregates.values());
+    }
+
+    /**
+     * Records that an employee was added to, or with {@code sign = -1} removed from, a group. The change reaches
+     * the totals once the current transaction commits, or right away outside a transaction.
+     * Must be called before the transaction commits, i.e. from a JPA lifecycle callback.
+     *
+     * @param department the employee's department.
+     * @param status     the employee's status.
+     * @param salary     the employee's salary, may be null.
+     * @param sign       +1 to add the employee, -1 to remove it.
+     */
+    public void record(String department, String status, BigDecimal salary, int sign) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingDeltas deltas = startWrite();
+            try {
+                deltas.add(department, status, salary, sign);
+                deltas.applyTo(aggregates);
+            } finally {
+                writesInFlight.decrementAndGet();
+            }
+            return;
+        }
+        PendingDeltas deltas = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = startWrite();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        deltas.add(department, status, salary, sign);
+    }
+
+    private PendingDeltas startWrite() {
+        // In-flight first: a scan that sees the new epoch is then guaranteed to see the write in flight
+        writesInFlight.incrementAndGet();
+        writeEpoch.incrementAndGet();
+        return new PendingDeltas();
+    }
+
+    /**
+     * Rebuilds the totals from the employee table once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the totals from the employee table, scanning id ranges of
+     * {@code employee.aggregates.rebuild-chunk-size} in parallel, and swaps them in.
+     * If employee changes never pause long enough for a clean scan, the last scan is installed
+     * anyway and the consistency check corrects it later.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<GroupKey, EmployeeAggregate> scanned = null;
+        for (int attempt = 0; attempt < MAX_SCAN_ATTEMPTS; attempt++) {
+            long epoch = awaitQuietEpoch();
+            scanned = scanInChunks();
+            synchronized (installLock) {
+                if (epoch >= 0 && writeEpoch.get() == epoch) {
+                    aggregates = scanned;
+                    logger.info("Rebuilt {} employee aggregates in {} ms", scanned.size(), (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+            }
+        }
+        synchronized (installLock) {
+            aggregates = scanned;
+        }
+        logger.warn("Rebuilt {} employee aggregates while employees were being changed; totals may be off until the next consistency check",
+                scanned.size());
+    }
+
+    /**
+     * Compares the incrementally maintained totals with a full GROUP BY over the employee table
+     * and replaces them with the scanned values if they differ.
+     *
+     * @return whether the totals were consistent, were repaired, or could not be checked.
+     */
+    @Scheduled(
+            initialDelayString = "${employee.aggregates.consistency-check-interval}",
+            fixedDelayString = "${employee.aggregates.consistency-check-interval}"
+    )
+    public ConsistencyCheckResult checkConsistency() {
+        for (int attempt = 0; attempt < MAX_SCAN_ATTEMPTS; attempt++) {
+            long epoch = awaitQuietEpoch();
+            if (epoch < 0) {
+                continue;
+            }
+            Map<GroupKey, EmployeeAggregate> scanned = new ConcurrentHashMap<>();
+            merge(employeeRepository.aggregateAll(), scanned);
+
+            synchronized (installLock) {
+                if (writeEpoch.get() != epoch) {
+                    continue;
+                }
+                Map<GroupKey, EmployeeAggregate> current = aggregates;
+                boolean consistent = scanned.size() == current.size()
+                        && scanned.entrySet().stream().allMatch(entry -> sameTotals(entry.getValue(), current.get(entry.getKey())));
+                if (consistent) {
+                    return ConsistencyCheckResult.CONSISTENT;
+                }
+                logger.warn("Employee aggregates drifted from the employee table; replacing {} groups with {} scanned groups",
+                        current.size(), scanned.size());
+                aggregates = scanned;
+                return ConsistencyCheckResult.REPAIRED;
+            }
+        }
+        logger.info("Skipped the employee aggregate consistency check: employees were being changed throughout");
+        return ConsistencyCheckResult.SKIPPED;
+    }
+
+    /**
+     * Waits, for a bounded time, until no transaction has deltas pending, and returns the write epoch seen
+     * at that moment, or -1 if changes kept arriving. Never waits on the calling thread's own transaction.
+     */
+    private long awaitQuietEpoch() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return -1;
+        }
+        long deadline = System.nanoTime() + QUIET_WAIT_NANOS;
+        while (true) {
+            // Epoch first: a write starting after this read changes it, one started before is still counted
+            long epoch = writeEpoch.get();
+            if (writesInFlight.get() == 0) {
+                return epoch;
+            }
+            if (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted()) {
+                return -1;
+            }
+            LockSupport.parkNanos(10_000_000L);
+        }
+    }
+
+    private Map<GroupKey, EmployeeAggregate> scanInChunks() {
+        Map<GroupKey, EmployeeAggregate> rebuilt = new ConcurrentHashMap<>();
+        Long minId = employeeRepository.findMinId().orElse(null);
+        Long maxId = employeeRepository.findMaxId().orElse(null);
+        if (minId == null || maxId == null) {
+            return rebuilt;
+        }
+
+        long chunks = (maxId - minId) / rebuildChunkSize + 1;
+        int parallelism = (int) Math.min(chunks, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<List<EmployeeAggregate>>> pending = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                long fromId = from;
+                long toId = Math.min(from + rebuildChunkSize - 1, maxId);
+                pending.add(executor.submit(() -> employeeRepository.aggregateByIdRange(fromId, toId)));
+            }
+            for (Future<List<EmployeeAggregate>> chunk : pending) {
+                merge(chunk.get(), rebuilt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding employee aggregates", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to rebuild employee aggregates", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return rebuilt;
+    }
+
+    private static void merge(List<EmployeeAggregate> rows, Map<GroupKey, EmployeeAggregate> target) {
+        for (EmployeeAggregate row : rows) {
+            target.merge(new GroupKey(row.department(), row.status()), row, (a, b) -> new EmployeeAggregate(
+                    a.department(), a.status(), a.headcount() + b.headcount(), a.totalSalary().add(b.totalSalary())));
+        }
+    }
+
+    private static boolean sameTotals(EmployeeAggregate expected, EmployeeAggregate actual) {
+        return actual != null
+                && expected.headcount() == actual.headcount()
+                && expected.totalSalary().compareTo(actual.totalSalary()) == 0;
+    }
+
+    private record GroupKey(String department, String status) {
+    }
+
+    /**
+     * Deltas of one transaction, coalesced per group, applied once after commit.
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<GroupKey, long[]> headcounts = new HashMap<>();
+        private final Map<GroupKey, BigDecimal> salaries = new HashMap<>();
+
+        void add(String department, String status, BigDecimal salary, int sign) {
+            GroupKey key = new GroupKey(department, status);
+            headcounts.computeIfAbsent(key, k -> new long[1])[0] += sign;
+            BigDecimal delta = salary == null ? BigDecimal.ZERO : salary;
+            salaries.merge(key, sign < 0 ? delta.negate() : delta, BigDecimal::add);
+        }
+
+        void applyTo(Map<GroupKey, EmployeeAggregate> target) {
+            headcounts.forEach((key, headcountDelta) -> {
+                BigDecimal salaryDelta = salaries.get(key);
+                if (headcountDelta[0] == 0 && salaryDelta.signum() == 0) {
+                    return;
+                }
+                target.compute(key, (k, current) -> {
+                    long headcount = (current == null ? 0 : current.headcount()) + headcountDelta[0];
+                    BigDecimal total = (current == null ? BigDecimal.ZERO : current.totalSalary()).add(salaryDelta);
+                    // Drop empty groups so they disappear from the report, as they would from a GROUP BY
+                    return headcount == 0 ? null : new EmployeeAggregate(key.department(), key.status(), headcount, total);
+                });
+            });
+        }
+
+        @Override
+        public void suspend() {
+            // Keep an inner REQUIRES_NEW transaction from writing into this buffer
+            TransactionSynchronizationManager.unbindResource(EmployeeAggregateService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EmployeeAggregateService.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EmployeeAggregateService.this);
+            try {
+                if (status == STATUS_COMMITTED) {
+                    applyTo(aggregates);
+                }
+            } finally {
+                writesInFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example2.demo.service;
 
+import com.example2.demo.controller.auth.TokenIntrospectionResponse;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -24,6 +29,23 @@ public class JwtService {
     @Value("${jwt.expiry.time}")
     private long EXPIRY_TIME;
 
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Decodes the signing key and builds the (thread-safe) parser once, instead of on every token.
+     */
+    @PostConstruct
+    void init() {
+        // Decode the Base64-encoded secret key
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+        signInKey = Keys.hmacShaKeyFor(keyBytes); // Generate the HMAC signing key
+        jwtParser = Jwts
+                .parser()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     /**
      * Extracts the username from the given JWT token.
      *
@@ -54,10 +76,7 @@ public class JwtService {
      * @return the claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -68,9 +87,37 @@ public class JwtService {
      * @return the signing key
      */
     private Key getSignInKey() {
-        // Decode the Base64-encoded secret key
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes); // Generate the HMAC signing key
+        return signInKey;
+    }
+
+    /**
+     * Verifies a JWT token and describes it without consulting the user store.
+     * Expired tokens still report their subject, role and expiry, but are inactive.
+     *
+     * @param token the JWT token
+     * @return the introspection result; never null
+     */
+    public TokenIntrospectionResponse introspect(String token) {
+        try {
+            return describe(extractAllClaims(token), true, null);
+        } catch (ExpiredJwtException e) {
+            return describe(e.getClaims(), false, "expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenIntrospectionResponse.builder()
+                    .active(false)
+                    .error("invalid")
+                    .build();
+        }
+    }
+
+    private TokenIntrospectionResponse describe(Claims claims, boolean active, String error) {
+        return TokenIntrospectionResponse.builder()
+                .active(active)
+                .subject(claims.getSubject())
+                .role(claims.get("role", String.class))
+                .expiresAt(claims.getExpiration() == null ? null : claims.getExpiration().toInstant())
+                .error(error)
+                .build();
     }
 
     /**
@@ -97,7 +144,8 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRY_TIME))
-                .claim("role", "ROLE_" + userDetails.getAuthorities().stream()
+                // Authorities already carry the ROLE_ prefix
+                .claim("role", userDetails.getAuthorities().stream()
                         .findFirst() // As there will be only one role, pick the first one
                         .map(GrantedAuthority::getAuthority)
                         .orElse(null)) // If no role is found, return null
@@ -0,0 +1,139 @@
+package com.example2.demo.service;
+
+import com.example2.demo.controller.auth.TokenIntrospectionResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    // Number of tokens read, verified and written at a time; bounds memory regardless of batch size
+    static final int CHUNK_SIZE = 256;
+
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jwt.introspection.max-batch-size}")
+    private int maxBatchSize;
+
+    /**
+     * Reads a batch of the form {@code {"tokens": ["...", ...]}} and writes a JSON array with one
+     * introspection result per token, in request order.
+     * The batch is processed in chunks: identical tokens within a chunk are verified once, the
+     * distinct tokens are verified in parallel, and each chunk is flushed before the next is read.
+     * The first chunk is read before anything is written, so a malformed or truncated short batch
+     * is rejected as a whole. A body that turns out to be malformed after results have been written
+     * leaves the array unterminated, so the caller can never mistake it for a complete answer.
+     * Batches larger than {@code jwt.introspection.max-batch-size} are treated as malformed.
+     *
+     * @param requestBody  the JSON request body.
+     * @param responseBody the stream the JSON results are written to; it is left open.
+     * @throws IllegalArgumentException if the body is malformed and nothing has been written yet.
+     * @throws IOException              in case of I/O errors, or a malformed body after results have been written.
+     */
+    public void introspect(InputStream requestBody, OutputStream responseBody) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(requestBody)) {
+            List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+            boolean more;
+            try {
+                moveToTokensArray(parser);
+                more = readChunk(parser, chunk, 0);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Request body is not valid JSON: " + e.getOriginalMessage(), e);
+            }
+
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(responseBody)
+                    // Never close an interrupted array, and leave the response stream to the container
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                writeChunk(chunk, generator);
+                int read = chunk.size();
+                while (more) {
+                    chunk.clear();
+                    more = readChunk(parser, chunk, read);
+                    writeChunk(chunk, generator);
+                    read += chunk.size();
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private void writeChunk(List<String> chunk, JsonGenerator generator) throws IOException {
+        Map<String, TokenIntrospectionResponse> results = new LinkedHashSet<>(chunk).parallelStream()
+                .collect(Collectors.toConcurrentMap(Function.identity(), jwtService::introspect));
+        // Flush once per chunk, below, rather than after every result
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        for (String token : chunk) {
+            writer.writeValue(generator, results.get(token));
+        }
+        generator.flush();
+    }
+
+    private static void moveToTokensArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            JsonToken value = parser.nextToken();
+            if ("tokens".equals(parser.currentName()) && value == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new IllegalArgumentException("Request body must contain a \"tokens\" array");
+    }
+
+    /**
+     * Reads up to {@link #CHUNK_SIZE} entries of the tokens array into the given list.
+     *
+     * @param read number of entries read in earlier chunks.
+     * @return false once the end of the array has been read.
+     */
+    private boolean readChunk(JsonParser parser, List<String> chunk, int read) throws IOException {
+        while (chunk.size() < CHUNK_SIZE) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of the tokens array");
+            }
+            if (read + chunk.size() == maxBatchSize) {
+                throw new JsonParseException(parser, "Batch exceeds the maximum of " + maxBatchSize + " tokens");
+            }
+            chunk.add(readToken(parser));
+        }
+        return true;
+    }
+
+    private static String readToken(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        // Non-string entries keep their position in the response and are reported as invalid
+        parser.skipChildren();
+        return "";
+    }
+}
@@ -0,0 +1,10 @@
+ALTER TABLE user
+ADD COLUMN email_normalized VARCHAR(255);
+
+UPDATE user SET email_normalized = LOWER(TRIM(email));
+
+ALTER TABLE user
+MODIFY email_normalized VARCHAR(255) NOT NULL;
+
+-- Covers the login lookup: keyed on the normalized email, password and role are read from the index
+CREATE INDEX idx_user_credentials ON user (email_normalized, password, role);
@@ -0,0 +1,4 @@
+-- The normalized email is the login key, so it must identify a single user.
+-- If existing rows collide after normalization (e.g. 'a@b.c' and ' A@b.c'), this statement fails
+-- with a duplicate-key error and the migration stops; merge or rename those accounts, then re-run.
+CREATE UNIQUE INDEX uk_user_email_normalized ON user (email_normalized);
@@ -0,0 +1,171 @@
+package com.example2.demo.controller.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthenticationControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void loginIgnoresEmailCaseAndWhitespace() {
+        String registerToken = restTemplate.postForObject("/api/v1/auth/register",
+                new RegisterRequest("Mixed", "Case", "Mixed.Case@Example.com", "secret"),
+                AuthenticationResponse.class).getToken();
+
+        ResponseEntity<AuthenticationResponse> login = restTemplate.postForEntity("/api/v1/auth/authenticate",
+                new AuthenticateRequest(" mixed.case@EXAMPLE.COM", "secret"), AuthenticationResponse.class);
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+
+        assertEquals(HttpStatus.OK, userCheck(registerToken).getStatusCode());
+        assertEquals(HttpStatus.OK, userCheck(login.getBody().getToken()).getStatusCode());
+    }
+
+    @Test
+    void caseAndWhitespaceVariantsOfARegisteredEmailAreRejected() {
+        register("victim@example.com");
+
+        for (String variant : new String[]{"Victim@Example.com", " victim@example.com", "victim@example.com\t"}) {
+            ResponseEntity<String> response = restTemplate.postForEntity("/api/v1/auth/register",
+                    new RegisterRequest("Evil", "Twin", variant, "other-secret"), String.class);
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode(), variant);
+        }
+
+        ResponseEntity<AuthenticationResponse> login = restTemplate.postForEntity("/api/v1/auth/authenticate",
+                new AuthenticateRequest("victim@example.com", "secret"), AuthenticationResponse.class);
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+        assertEquals(HttpStatus.OK, userCheck(login.getBody().getToken()).getStatusCode());
+    }
+
+    @Test
+    void duplicateNormalizedEmailsAreRejectedByTheDatabase() {
+        register("unique.key@example.com");
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO user (firstname, lastname, email, email_normalized, password, role) VALUES (?, ?, ?, ?, ?, ?)",
+                "Direct", "Insert", "UNIQUE.KEY@example.com", "unique.key@example.com", "x", "USER"));
+    }
+
+    @Test
+    void loginWithWrongPasswordIsRejected() {
+        restTemplate.postForObject("/api/v1/auth/register",
+                new RegisterRequest("Wrong", "Password", "wrong.password@example.com", "secret"),
+                AuthenticationResponse.class);
+
+        ResponseEntity<String> login = restTemplate.postForEntity("/api/v1/auth/authenticate",
+                new AuthenticateRequest("wrong.password@example.com", "not-the-secret"), String.class);
+        assertNotEquals(HttpStatus.OK, login.getStatusCode());
+    }
+
+    @Test
+    void introspectionRequiresTheServiceRole() {
+        String userToken = register("plain.user@example.com");
+        String body = "{\"tokens\":[\"" + userToken + "\"]}";
+
+        assertEquals(HttpStatus.FORBIDDEN, introspect(null, body).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, introspect(userToken, body).getStatusCode());
+    }
+
+    @Test
+    void introspectionVerifiesTokensForServiceClients() {
+        String serviceToken = registerService("service.client@example.com");
+        String userToken = register("introspected.user@example.com");
+
+        ResponseEntity<JsonNode> response = restTemplate.exchange("/api/v1/auth/introspect", HttpMethod.POST,
+                new HttpEntity<>("{\"tokens\":[\"" + userToken + "\", \"garbage\"]}", jsonHeaders(serviceToken)), JsonNode.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        assertEquals("introspected.user@example.com", response.getBody().get(0).get("subject").asText());
+        assertFalse(response.getBody().get(1).get("active").asBoolean());
+    }
+
+    @Test
+    void malformedIntrospectionBodiesAreBadRequests() {
+        String serviceToken = registerService("malformed.client@example.com");
+
+        assertEquals(HttpStatus.BAD_REQUEST, introspect(serviceToken, "garbage").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, introspect(serviceToken, "{\"tokens\":[\"" + serviceToken + "\"").getStatusCode());
+    }
+
+    @Test
+    void introspectionTruncatedAfterStreamingStartedIsNotACompleteResponse() {
+        String serviceToken = registerService("truncated.client@example.com");
+        String tokens = String.join("\",\"", Collections.nCopies(300, serviceToken));
+        String truncated = "{\"tokens\":[\"" + tokens + "\",\"" + serviceToken.substring(0, 10);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/auth/introspect"))
+                .header("Authorization", "Bearer " + serviceToken)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(truncated))
+                .build();
+        // Results were already streamed, so the server aborts the chunked response instead of completing it
+        assertThrows(IOException.class, () -> HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private ResponseEntity<String> introspect(String token, String body) {
+        return restTemplate.exchange("/api/v1/auth/introspect", HttpMethod.POST,
+                new HttpEntity<>(body, jsonHeaders(token)), String.class);
+    }
+
+    private HttpHeaders jsonHeaders(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return headers;
+    }
+
+    private String register(String email) {
+        return restTemplate.postForObject("/api/v1/auth/register",
+                new RegisterRequest("Test", "User", email, "secret"), AuthenticationResponse.class).getToken();
+    }
+
+    private String registerService(String email) {
+        String token = register(email);
+        // Roles are read from the database on every request, so the registration token picks up the new role
+        jdbcTemplate.update("UPDATE user SET role = 'SERVICE' WHERE email_normalized = ?", email);
+        return token;
+    }
+
+    private ResponseEntity<String> userCheck(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange("/api/v1/users/user/check", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example2.demo.loadtest;
+
+import com.example2.demo.controller.auth.AuthenticateRequest;
+import com.example2.demo.controller.auth.AuthenticationResponse;
+import com.example2.demo.controller.auth.RegisterRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the authentication endpoints.
+ * Requests are issued on a fixed schedule regardless of how quickly the server answers,
+ * and each latency is measured from the scheduled start, so a slow server cannot hide
+ * its queueing delay by slowing the generator down (coordinated omission).
+ */
+public class AuthLoadGenerator {
+
+    private static final String AUTH_PATH = "/api/v1/auth";
+    private static final String USER_CHECK_PATH = "/api/v1/users/user/check";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final List<SeededUser> users = new ArrayList<>();
+
+    private final LatencyRecorder authenticateLatency = new LatencyRecorder("authenticate");
+    private final LatencyRecorder userCheckLatency = new LatencyRecorder("user/check");
+
+    public AuthLoadGenerator(String baseUrl, LoadTestSettings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+    }
+
+    /**
+     * Registers {@code settings.users()} users in parallel and keeps the issued tokens
+     * for the bearer-token part of the mix.
+     */
+    public void seedUsers() {
+        List<CompletableFuture<SeededUser>> pending = new ArrayList<>();
+        for (int i = 0; i < settings.users(); i++) {
+            String email = "loadtest-user-" + i + "@example.com";
+            String password = "password-" + i;
+            RegisterRequest request = RegisterRequest.builder()
+                    .firstname("Load")
+                    .lastname("User" + i)
+                    .email(email)
+                    .password(password)
+                    .build();
+            pending.add(client.sendAsync(post(AUTH_PATH + "/register", request), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Registering " + email + " failed with status " + response.statusCode());
+                        }
+                        return new SeededUser(email, password, readToken(response.body()));
+                    }));
+        }
+        pending.forEach(future -> users.add(future.join()));
+    }
+
+    /**
+     * Drives the configured request mix at the fixed arrival rate for the warm-up plus
+     * the recorded duration, then waits for all in-flight requests to complete.
+     */
+    public void run() {
+        if (users.isEmpty()) {
+            throw new IllegalStateException("Users must be seeded before running the load");
+        }
+        Random random = new Random(settings.seed());
+        // A counter rather than a Phaser: an overloaded server can leave far more than 65535 requests in flight
+        AtomicLong inFlight = new AtomicLong();
+        long intervalNanos = 1_000_000_000L / settings.ratePerSecond();
+        long start = System.nanoTime();
+        long recordFrom = start + settings.warmup().toNanos();
+        long end = recordFrom + settings.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            SeededUser user = users.get(random.nextInt(users.size()));
+            boolean login = random.nextDouble() < settings.authenticateRatio();
+            HttpRequest request = login ? authenticate(user) : userCheck(user);
+            LatencyRecorder recorder = login ? authenticateLatency : userCheckLatency;
+            boolean recorded = intendedStart >= recordFrom;
+
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - intendedStart;
+                        if (recorded) {
+                            if (failure == null && response.statusCode() == 200) {
+                                recorder.record(latency);
+                            } else {
+                                recorder.recordError();
+                            }
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    /**
+     * Formats the results of the recorded window.
+     *
+     * @return the report, one line per request type.
+     */
+    public String report() {
+        long window = settings.duration().toNanos();
+        return String.format("Load test: %d users, %d req/s, %ds recorded, %.0f%% logins%n%s%n%s",
+                settings.users(), settings.ratePerSecond(), settings.duration().toSeconds(),
+                settings.authenticateRatio() * 100,
+                authenticateLatency.summary(window),
+                userCheckLatency.summary(window));
+    }
+
+    public LatencyRecorder authenticateLatency() {
+        return authenticateLatency;
+    }
+
+    public LatencyRecorder userCheckLatency() {
+        return userCheckLatency;
+    }
+
+    private HttpRequest authenticate(SeededUser user) {
+        return post(AUTH_PATH + "/authenticate", AuthenticateRequest.builder()
+                .email(user.email())
+                .password(user.password())
+                .build());
+    }
+
+    private HttpRequest userCheck(SeededUser user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + USER_CHECK_PATH))
+                .header("Authorization", "Bearer " + user.token())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private String readToken(String body) {
+        try {
+            return objectMapper.readValue(body, AuthenticationResponse.class).getToken();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read token from response", e);
+        }
+    }
+
+    private record SeededUser(String email, String password, String token) {
+    }
+}
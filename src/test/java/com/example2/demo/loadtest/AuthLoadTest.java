@@ -0,0 +1,36 @@
+package com.example2.demo.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on a random port against the in-memory database and drives a
+ * mix of login storms and authenticated API calls through it.
+ * Excluded from the default build; run with {@code mvn test -Ploadtest}.
+ */
+@Tag("loadtest")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void loginStormAndAuthenticatedTraffic() {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        AuthLoadGenerator generator = new AuthLoadGenerator("http://localhost:" + port, settings);
+
+        generator.seedUsers();
+        generator.run();
+        System.out.println(generator.report());
+
+        // Errors and latencies are reported rather than asserted: a saturated server is a result, not a failure
+        assertTrue(generator.authenticateLatency().count() + generator.userCheckLatency().count() > 0);
+    }
+}
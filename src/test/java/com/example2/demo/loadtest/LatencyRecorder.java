@@ -0,0 +1,82 @@
+package com.example2.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe collector of per-request latencies for one request type.
+ * Latencies are expected to be measured from the request's <em>intended</em> start time,
+ * which is what corrects for coordinated omission: a stalled server delays the sender,
+ * and that wait is charged to every request that should have been sent meanwhile.
+ */
+public class LatencyRecorder {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+    private final String name;
+    private final AtomicLong errors = new AtomicLong();
+    private long[] samples = new long[1024];
+    private int count;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param nanos time from the intended start of the request to its completion.
+     */
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Counts a request that failed or returned a non-2xx status.
+     */
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    /**
+     * Formats throughput, error count and latency percentiles for the recorded window.
+     *
+     * @param elapsedNanos length of the recorded window.
+     * @return a single human-readable report line.
+     */
+    public synchronized String summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        StringBuilder line = new StringBuilder(String.format(
+                "%-14s ok=%-7d errors=%-5d throughput=%8.1f req/s", name, count, errors.get(), count / seconds));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format("  p%s=%.2fms", format(percentile), valueAt(sorted, percentile) / 1_000_000.0));
+        }
+        return line.toString();
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    private static long valueAt(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.floor(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
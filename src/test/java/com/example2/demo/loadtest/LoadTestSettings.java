@@ -0,0 +1,50 @@
+package com.example2.demo.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Tunable parameters of a load-test run, read from system properties so they can be
+ * passed on the Maven command line, e.g. {@code mvn test -Ploadtest -Dloadtest.rate=500}.
+ *
+ * @param users             number of users seeded through the register endpoint.
+ * @param ratePerSecond     fixed arrival rate of requests, independent of response times.
+ * @param warmup            duration driven at the target rate before recording starts.
+ * @param duration          recorded duration of the run.
+ * @param authenticateRatio share of requests (0..1) that are logins; the rest are bearer-token calls.
+ * @param seed              seed for the request mix, so runs are reproducible.
+ */
+public record LoadTestSettings(
+        int users,
+        int ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        double authenticateRatio,
+        long seed
+) {
+
+    public LoadTestSettings {
+        if (users <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("users and rate must be positive");
+        }
+        if (authenticateRatio < 0 || authenticateRatio > 1) {
+            throw new IllegalArgumentException("authenticateRatio must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Builds the settings from {@code loadtest.*} system properties, falling back to
+     * defaults small enough to finish in well under a minute.
+     *
+     * @return the settings for this run.
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.rate", 100),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5L)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 20L)),
+                Double.parseDouble(System.getProperty("loadtest.authenticateRatio", "0.2")),
+                Long.getLong("loadtest.seed", 42L)
+        );
+    }
+}
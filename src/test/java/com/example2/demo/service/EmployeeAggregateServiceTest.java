@@ -0,0 +1,219 @@
+package com.example2.demo.service;
+
+import com.example2.demo.entity.Employee;
+import com.example2.demo.repository.EmployeeAggregate;
+import com.example2.demo.repository.EmployeeRepository;
+import com.example2.demo.service.EmployeeAggregateService.ConsistencyCheckResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("h2")
+@SpringBootTest(properties = "employee.aggregates.rebuild-chunk-size=2")
+class EmployeeAggregateServiceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private EmployeeAggregateService aggregateService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearEmployees() {
+        jdbcTemplate.update("DELETE FROM employee");
+        aggregateService.rebuild();
+    }
+
+    @Test
+    void insertUpdateAndDeleteAreAppliedAfterCommit() {
+        Employee moved = employeeRepository.save(employee("IT", "Active", "100.00"));
+        employeeRepository.save(employee("IT", "Active", "200.00"));
+        Employee deleted = employeeRepository.save(employee("HR", "Active", "50.00"));
+
+        assertGroup("IT", "Active", 2, "300.00");
+        assertGroup("HR", "Active", 1, "50.00");
+
+        Employee loaded = employeeRepository.findById(moved.getId()).orElseThrow();
+        loaded.setDepartment("HR");
+        loaded.setStatus("Inactive");
+        loaded.setSalary(new BigDecimal("120.00"));
+        employeeRepository.save(loaded);
+
+        assertGroup("IT", "Active", 1, "200.00");
+        assertGroup("HR", "Inactive", 1, "120.00");
+
+        employeeRepository.delete(employeeRepository.findById(deleted.getId()).orElseThrow());
+
+        assertTrue(group("HR", "Active").isEmpty());
+        assertEquals(2, aggregateService.getAggregates().size());
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        Employee existing = employeeRepository.save(employee("IT", "Active", "100.00"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.save(employee("IT", "Active", "500.00"));
+            Employee loaded = employeeRepository.findById(existing.getId()).orElseThrow();
+            loaded.setDepartment("HR");
+            employeeRepository.saveAndFlush(loaded);
+            status.setRollbackOnly();
+        });
+
+        assertGroup("IT", "Active", 1, "100.00");
+        assertEquals(1, aggregateService.getAggregates().size());
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    @Test
+    void consistencyCheckRepairsChangesMadeOutsideJpa() {
+        employeeRepository.save(employee("IT", "Active", "100.00"));
+        jdbcTemplate.update("INSERT INTO employee (name, emp_code, email, department, status, salary) "
+                + "VALUES ('Direct', 'direct-1', 'direct-1@example.com', 'IT', 'Active', 5.00)");
+
+        assertGroup("IT", "Active", 1, "100.00");
+        assertEquals(ConsistencyCheckResult.REPAIRED, aggregateService.checkConsistency());
+        assertGroup("IT", "Active", 2, "105.00");
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    @Test
+    void rebuildScansTheTableInChunks() {
+        for (int i = 0; i < 7; i++) {
+            jdbcTemplate.update("INSERT INTO employee (name, emp_code, email, department, status, salary) VALUES (?, ?, ?, ?, 'Active', ?)",
+                    "Direct", "direct-" + i, "direct-" + i + "@example.com", i % 2 == 0 ? "IT" : "HR", 10 * i);
+        }
+
+        aggregateService.rebuild();
+
+        assertGroup("IT", "Active", 4, "120.00");
+        assertGroup("HR", "Active", 3, "90.00");
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    @Test
+    void concurrentWritesNeverShowAsDrift() {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 25; i++) {
+                    Employee saved = employeeRepository.save(employee(i % 2 == 0 ? "IT" : "HR", "Active", "10.00"));
+                    if (i % 3 == 0) {
+                        employeeRepository.delete(employeeRepository.findById(saved.getId()).orElseThrow());
+                    }
+                }
+            }));
+        }
+        CompletableFuture<Void> allWriters = CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new))
+                .whenComplete((result, failure) -> writing.set(false));
+
+        int checks = 0;
+        while (writing.get()) {
+            assertNotEquals(ConsistencyCheckResult.REPAIRED, aggregateService.checkConsistency(),
+                    "check " + checks + " reported drift during concurrent writes");
+            checks++;
+        }
+        allWriters.join();
+
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+        long headcount = aggregateService.getAggregates().stream().mapToLong(EmployeeAggregate::headcount).sum();
+        assertEquals(employeeRepository.count(), headcount);
+    }
+
+    @Test
+    void aTransactionRegistersOneSynchronizationForAllItsChanges() {
+        int[] synchronizations = new int[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.save(employee("IT", "Active", "1.00"));
+            synchronizations[0] = TransactionSynchronizationManager.getSynchronizations().size();
+            for (int i = 0; i < 100; i++) {
+                employeeRepository.save(employee(i % 2 == 0 ? "IT" : "HR", "Active", "1.00"));
+            }
+            synchronizations[1] = TransactionSynchronizationManager.getSynchronizations().size();
+        });
+
+        assertEquals(synchronizations[0], synchronizations[1]);
+        assertGroup("IT", "Active", 51, "51.00");
+        assertGroup("HR", "Active", 50, "50.00");
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    @Test
+    void consistencyCheckIsSkippedWhileATransactionHoldsPendingChanges() throws Exception {
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch checked = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.saveAndFlush(employee("IT", "Active", "100.00"));
+            saved.countDown();
+            try {
+                checked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertTrue(saved.await(10, TimeUnit.SECONDS));
+            assertEquals(ConsistencyCheckResult.SKIPPED, aggregateService.checkConsistency());
+        } finally {
+            checked.countDown();
+        }
+        writer.join();
+
+        assertGroup("IT", "Active", 1, "100.00");
+        assertEquals(ConsistencyCheckResult.CONSISTENT, aggregateService.checkConsistency());
+    }
+
+    private void assertGroup(String department, String status, long headcount, String totalSalary) {
+        EmployeeAggregate aggregate = group(department, status).orElseThrow();
+        assertEquals(headcount, aggregate.headcount());
+        assertEquals(0, new BigDecimal(totalSalary).compareTo(aggregate.totalSalary()));
+    }
+
+    private Optional<EmployeeAggregate> group(String department, String status) {
+        return aggregateService.getAggregates().stream()
+                .filter(aggregate -> department.equals(aggregate.department()) && status.equals(aggregate.status()))
+                .findFirst();
+    }
+
+    private static Employee employee(String department, String status, String salary) {
+        int n = SEQUENCE.incrementAndGet();
+        Employee employee = new Employee();
+        employee.setName("Employee " + n);
+        employee.setEmpCode("emp-" + n);
+        employee.setEmail("employee-" + n + "@example.com");
+        employee.setDepartment(department);
+        employee.setStatus(status);
+        employee.setSalary(new BigDecimal(salary));
+        return employee;
+    }
+}
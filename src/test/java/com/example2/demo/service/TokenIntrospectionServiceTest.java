@@ -0,0 +1,204 @@
+package com.example2.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TokenIntrospectionServiceTest {
+
+    private static final String SECRET_KEY = "J1pUaSLrDyiUeMfKMHsNLkRKtkSxrV167mCeGmigTwc=";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private JwtService jwtService;
+    private TokenIntrospectionService introspectionService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(newJwtService(86_400_000L));
+        introspectionService = new TokenIntrospectionService(jwtService, objectMapper);
+        ReflectionTestUtils.setField(introspectionService, "maxBatchSize", 1000);
+    }
+
+    @Test
+    void resultsFollowRequestOrder() throws IOException {
+        String alice = token("alice@example.com");
+        String bob = token("bob@example.com");
+
+        JsonNode results = introspect(body(alice, "not-a-jwt", bob));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).get("active").asBoolean());
+        assertEquals("alice@example.com", results.get(0).get("subject").asText());
+        assertEquals("ROLE_USER", results.get(0).get("role").asText());
+        assertTrue(results.get(0).has("expiresAt"));
+        assertFalse(results.get(1).get("active").asBoolean());
+        assertEquals("bob@example.com", results.get(2).get("subject").asText());
+    }
+
+    @Test
+    void identicalTokensInAChunkAreVerifiedOnce() throws IOException {
+        String alice = token("alice@example.com");
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tokens.add(alice);
+        }
+
+        JsonNode results = introspect(body(tokens.toArray(String[]::new)));
+
+        assertEquals(10, results.size());
+        results.forEach(result -> assertEquals("alice@example.com", result.get("subject").asText()));
+        verify(jwtService, times(1)).introspect(alice);
+    }
+
+    @Test
+    void expiredTokensReportClaimsButAreInactive() throws IOException {
+        String expired = newJwtService(-60_000L).generateToken(user("alice@example.com"));
+
+        JsonNode result = introspect(body(expired)).get(0);
+
+        assertFalse(result.get("active").asBoolean());
+        assertEquals("expired", result.get("error").asText());
+        assertEquals("alice@example.com", result.get("subject").asText());
+    }
+
+    @Test
+    void invalidAndNonStringEntriesKeepTheirPosition() throws IOException {
+        String alice = token("alice@example.com");
+        String tampered = alice.substring(0, alice.length() - 2) + "xx";
+
+        JsonNode results = introspect("{\"tokens\":[\"garbage\", 42, {\"a\": [1]}, [1, 2], null, \"" + tampered + "\", \"" + alice + "\"]}");
+
+        assertEquals(7, results.size());
+        for (int i = 0; i < 6; i++) {
+            assertFalse(results.get(i).get("active").asBoolean());
+            assertEquals("invalid", results.get(i).get("error").asText());
+        }
+        assertTrue(results.get(6).get("active").asBoolean());
+    }
+
+    @Test
+    void unknownFieldsBeforeTheTokensArrayAreSkipped() throws IOException {
+        JsonNode results = introspect("{\"client\": {\"name\": \"x\", \"tags\": [1]}, \"tokens\": [\"" + token("alice@example.com") + "\"]}");
+
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void batchesLargerThanAChunkAreProcessedInOrder() throws IOException {
+        String alice = token("alice@example.com");
+        String bob = token("bob@example.com");
+        int size = TokenIntrospectionService.CHUNK_SIZE * 2 + 10;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            tokens.add(i % 2 == 0 ? alice : bob);
+        }
+
+        JsonNode results = introspect(body(tokens.toArray(String[]::new)));
+
+        assertEquals(size, results.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(i % 2 == 0 ? "alice@example.com" : "bob@example.com", results.get(i).get("subject").asText());
+        }
+        // De-duplication is per chunk: one verification per token per chunk
+        verify(jwtService, times(3)).introspect(alice);
+    }
+
+    @Test
+    void malformedBodiesAreRejectedBeforeAnythingIsWritten() {
+        String alice = token("alice@example.com");
+        for (String body : List.of("garbage", "[1]", "{\"other\": 1}", "{\"tokens\": \"x\"}", "{\"tokens\":[\"" + alice + "\"")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertThrows(IllegalArgumentException.class, () -> introspect(body, out), body);
+            assertEquals(0, out.size(), body);
+        }
+    }
+
+    @Test
+    void truncationAfterStreamingStartedLeavesTheArrayOpen() {
+        String alice = token("alice@example.com");
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < TokenIntrospectionService.CHUNK_SIZE + 5; i++) {
+            tokens.add(alice);
+        }
+        String full = body(tokens.toArray(String[]::new));
+        String truncated = full.substring(0, full.length() - 10);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> introspect(truncated, out));
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("["));
+        assertFalse(written.endsWith("]"));
+        assertThrows(IOException.class, () -> objectMapper.readTree(written));
+    }
+
+    @Test
+    void batchesOverTheLimitAreRejected() {
+        ReflectionTestUtils.setField(introspectionService, "maxBatchSize", 3);
+        String alice = token("alice@example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> introspect(body(alice, alice, alice, alice)));
+    }
+
+    @Test
+    void batchesOverTheLimitAfterStreamingStartedLeaveTheArrayOpen() {
+        ReflectionTestUtils.setField(introspectionService, "maxBatchSize", TokenIntrospectionService.CHUNK_SIZE + 1);
+        String alice = token("alice@example.com");
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < TokenIntrospectionService.CHUNK_SIZE + 2; i++) {
+            tokens.add(alice);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> introspect(body(tokens.toArray(String[]::new)), out));
+        assertFalse(out.toString(StandardCharsets.UTF_8).endsWith("]"));
+    }
+
+    private JsonNode introspect(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        introspect(body, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private void introspect(String body, ByteArrayOutputStream out) throws IOException {
+        introspectionService.introspect(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+    }
+
+    private String token(String email) {
+        return jwtService.generateToken(user(email));
+    }
+
+    private static String body(String... tokens) {
+        return "{\"tokens\":[\"" + String.join("\",\"", tokens) + "\"]}";
+    }
+
+    private static User user(String email) {
+        return (User) User.withUsername(email).password("x").authorities("ROLE_USER").build();
+    }
+
+    private static JwtService newJwtService(long expiryTime) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "EXPIRY_TIME", expiryTime);
+        jwtService.init();
+        return jwtService;
+    }
+}